@@ -0,0 +1,139 @@
+package run;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Stores results of JUnit runs by a fingerprint of their input files and arguments.
+ *
+ * <p>The input files are taken from the module path and class path options of the JUnit call: all
+ * files in each listed directory and each listed file. JAR files are fingerprinted by their
+ * entries' names and contents, ignoring the timestamps that change with every rebuild. A call
+ * without such an option, or with a path element that does not exist, is not cacheable. All other
+ * arguments add to the key verbatim, except the value of {@code --reports-dir}.
+ *
+ * <p>Test modules whose sources contain a {@code @Tag("flaky")} or {@code @Tag(value = "flaky")}
+ * annotation, with any whitespace, are never cached. Tags declared via meta-annotations or
+ * constants are not detected.
+ */
+record JUnitResultCache(Path directory, Path sources) {
+  static final Pattern FLAKY = Pattern.compile("@Tag\\s*\\(\\s*(value\\s*=\\s*)?\"flaky\"\\s*\\)");
+  static final Set<String> PATH_OPTIONS =
+      Set.of("--module-path", "-p", "--class-path", "--classpath", "-cp");
+
+  record Result(String out, String err) {}
+
+  Optional<String> fingerprint(String module, List<String> arguments) {
+    if (isFlaky(module)) return Optional.empty();
+    try {
+      var md = Sha256.newMessageDigest();
+      update(md, Runtime.version().toString());
+      update(md, module);
+      var paths = new ArrayList<Path>();
+      for (int i = 0; i < arguments.size(); i++) {
+        var argument = arguments.get(i);
+        if (argument.startsWith("--reports-dir")) {
+          if (!argument.contains("=")) i++; // skip output directory value
+          continue;
+        }
+        update(md, argument);
+        var split = argument.split("=", 2);
+        if (!PATH_OPTIONS.contains(split[0])) continue;
+        var value = split.length == 2 ? split[1] : "";
+        if (split.length == 1 && i + 1 < arguments.size()) value = arguments.get(++i);
+        update(md, value);
+        for (var element : value.split(File.pathSeparator)) {
+          if (!element.isEmpty()) paths.add(Path.of(element));
+        }
+      }
+      if (paths.isEmpty()) return Optional.empty(); // input files unknown
+      for (var path : paths) {
+        if (Files.isRegularFile(path)) {
+          update(md, path);
+          continue;
+        }
+        if (!Files.isDirectory(path)) return Optional.empty(); // input missing
+        try (var stream = Files.walk(path)) {
+          var files = stream.filter(Files::isRegularFile).sorted().toList();
+          for (var file : files) {
+            update(md, path.relativize(file).toString());
+            update(md, file);
+          }
+        }
+      }
+      return Optional.of(HexFormat.of().formatHex(md.digest()));
+    } catch (IOException | InvalidPathException exception) {
+      return Optional.empty(); // not cacheable, run again
+    }
+  }
+
+  Optional<Result> load(String fingerprint) {
+    var out = directory.resolve(fingerprint + ".out.txt");
+    var err = directory.resolve(fingerprint + ".err.txt");
+    if (!Files.isRegularFile(out) || !Files.isRegularFile(err)) return Optional.empty();
+    try {
+      return Optional.of(new Result(Files.readString(out), Files.readString(err)));
+    } catch (IOException exception) {
+      return Optional.empty();
+    }
+  }
+
+  void store(String fingerprint, Result result) {
+    try {
+      Files.createDirectories(directory);
+      Files.writeString(directory.resolve(fingerprint + ".err.txt"), result.err());
+      Files.writeString(directory.resolve(fingerprint + ".out.txt"), result.out());
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  boolean isFlaky(String module) {
+    var root = sources.resolve(module);
+    if (!Files.isDirectory(root)) return false;
+    try (var stream = Files.walk(root)) {
+      var files = stream.filter(path -> path.toString().endsWith(".java")).toList();
+      for (var file : files) if (FLAKY.matcher(Files.readString(file)).find()) return true;
+      return false;
+    } catch (IOException exception) {
+      return true; // play it safe
+    }
+  }
+
+  private static void update(MessageDigest md, String string) {
+    md.update(string.getBytes(StandardCharsets.UTF_8));
+    md.update((byte) 0);
+  }
+
+  private static void update(MessageDigest md, Path file) throws IOException {
+    update(md, file.getFileName().toString());
+    if (!file.toString().endsWith(".jar")) {
+      md.update(Files.readAllBytes(file));
+      return;
+    }
+    try (var zip = new ZipFile(file.toFile())) {
+      var entries = zip.stream().sorted(Comparator.comparing(ZipEntry::getName)).toList();
+      for (var entry : entries) {
+        update(md, entry.getName());
+        try (var stream = zip.getInputStream(entry)) {
+          md.update(stream.readAllBytes());
+        }
+      }
+    }
+  }
+}
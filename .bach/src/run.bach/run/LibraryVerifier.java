@@ -0,0 +1,188 @@
+package run;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Verifies SHA-256 digests of all JAR files in a library directory against a lock file.
+ *
+ * <p>The lock file uses {@code sha256sum}'s format: one {@code DIGEST  FILENAME} line per JAR file.
+ * A digest mismatch and a JAR file not listed in the lock file are errors. A missing lock file is
+ * created with the digests of all present JAR files, printing a warning. In update mode, digests of
+ * unlisted JAR files are recorded and entries of no longer present JAR files are removed. Computed
+ * digests are cached by file key, size, and last-modified time, unchanged JAR files are never
+ * hashed twice.
+ */
+record LibraryVerifier(Path directory, Path lock, Path cache, boolean update, boolean verbose) {
+  static LibraryVerifier of(Path directory, Path cache, boolean update, boolean verbose) {
+    var lock = directory.resolve("lib.sha256");
+    return new LibraryVerifier(directory, lock, cache, update, verbose);
+  }
+
+  record Entry(Path file, String stamp, String digest) {
+    String toCacheValue() {
+      return stamp + ' ' + digest;
+    }
+  }
+
+  void verify() {
+    if (!Files.isDirectory(directory)) return;
+    var initial = !Files.isRegularFile(lock);
+    var expected = readLockFile();
+    var cached = readCacheFile();
+    var entries = computeEntries(cached);
+    writeCacheFile(entries);
+    var changed = new ArrayList<String>();
+    var unlisted = new ArrayList<String>();
+    var actual = new TreeMap<String, String>();
+    for (var entry : entries) {
+      var name = entry.file().getFileName().toString();
+      actual.put(name, entry.digest());
+      var digest = expected.get(name);
+      if (digest == null) {
+        if (!update && !initial) unlisted.add("%s is not listed in %s".formatted(name, lock));
+        continue;
+      }
+      if (!digest.equals(entry.digest())) {
+        changed.add("%s expected %s but was %s".formatted(name, digest, entry.digest()));
+      }
+    }
+    if (!changed.isEmpty()) {
+      var size = changed.size();
+      var message = "%d file%s changed since recorded in %s, investigate before updating it";
+      throw newVerificationException(message.formatted(size, size == 1 ? "" : "s", lock), changed);
+    }
+    if (!unlisted.isEmpty()) {
+      var size = unlisted.size();
+      var message = "%d file%s not listed in %s, record new digests with -Dlock-update=true";
+      throw newVerificationException(message.formatted(size, size == 1 ? "" : "s", lock), unlisted);
+    }
+    if (initial) {
+      writeLockFile(actual);
+      System.out.println("WARNING: Created " + lock + " trusting digests of present JAR files");
+      actual.keySet().forEach(name -> System.out.println("Recorded digest of " + name));
+    } else if (update && !actual.equals(expected)) {
+      writeLockFile(actual);
+      for (var name : actual.keySet()) {
+        if (!expected.containsKey(name)) System.out.println("Recorded digest of " + name);
+      }
+      for (var name : expected.keySet()) {
+        if (!actual.containsKey(name)) System.out.println("Removed digest of " + name);
+      }
+    }
+    if (verbose) {
+      var size = entries.size();
+      System.out.printf("Verified %d file%s in %s%n", size, size == 1 ? "" : "s", directory);
+    }
+  }
+
+  static IllegalStateException newVerificationException(String message, List<String> errors) {
+    var exception = new IllegalStateException(message);
+    errors.forEach(error -> exception.addSuppressed(new IllegalStateException(error)));
+    return exception;
+  }
+
+  List<Entry> computeEntries(Map<String, String> cached) {
+    try (var stream = Files.list(directory)) {
+      var files = stream.filter(path -> path.toString().endsWith(".jar")).sorted().toList();
+      return files.parallelStream().map(file -> computeEntry(file, cached)).toList();
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  Entry computeEntry(Path file, Map<String, String> cached) {
+    try {
+      var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      var stamp =
+          String.join(
+              "|",
+              String.valueOf(attributes.fileKey()),
+              Long.toString(attributes.size()),
+              Long.toString(attributes.lastModifiedTime().toMillis()));
+      var value = cached.get(file.getFileName().toString());
+      if (value != null && value.startsWith(stamp + ' ')) {
+        return new Entry(file, stamp, value.substring(stamp.length() + 1));
+      }
+      return new Entry(file, stamp, sha256(file));
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  static String sha256(Path file) throws IOException {
+    try (var channel = FileChannel.open(file)) {
+      var md = Sha256.newMessageDigest();
+      var size = channel.size();
+      for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+        var length = Math.min(size - position, Integer.MAX_VALUE);
+        md.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+      }
+      return HexFormat.of().formatHex(md.digest());
+    }
+  }
+
+  Map<String, String> readLockFile() {
+    var map = new TreeMap<String, String>();
+    if (!Files.isRegularFile(lock)) return map;
+    try {
+      for (var line : Files.readAllLines(lock)) {
+        if (line.isBlank() || line.startsWith("#")) continue;
+        var split = line.strip().split("\\s+\\*?", 2);
+        if (split.length != 2) throw new IllegalStateException("Malformed line: " + line);
+        map.put(split[1], split[0].toLowerCase());
+      }
+      return map;
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  void writeLockFile(Map<String, String> digests) {
+    var lines = digests.entrySet().stream().map(e -> e.getValue() + "  " + e.getKey()).toList();
+    try {
+      Files.write(lock, lines);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  Map<String, String> readCacheFile() {
+    var properties = new Properties();
+    if (Files.isRegularFile(cache)) {
+      try (var reader = Files.newBufferedReader(cache)) {
+        properties.load(reader);
+      } catch (IOException exception) {
+        return Map.of(); // rehash everything
+      }
+    }
+    var map = new TreeMap<String, String>();
+    properties.forEach((key, value) -> map.put(key.toString(), value.toString()));
+    return map;
+  }
+
+  void writeCacheFile(List<Entry> entries) {
+    var properties = new Properties();
+    for (var entry : entries) {
+      properties.setProperty(entry.file().getFileName().toString(), entry.toCacheValue());
+    }
+    try {
+      Files.createDirectories(cache.getParent());
+      try (var writer = Files.newBufferedWriter(cache)) {
+        properties.store(writer, "SHA-256 digests of " + directory.toUri());
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package run;
 
+import java.nio.file.Path;
 import java.util.Optional;
 import run.bach.ModuleLocator;
 import run.bach.ToolCall;
@@ -8,6 +9,7 @@ import run.bach.workflow.Builder;
 import run.bach.workflow.ClassesCompiler;
 import run.bach.workflow.Folders;
 import run.bach.workflow.ImageCompiler;
+import run.bach.workflow.JUnitTester;
 import run.bach.workflow.Starter;
 import run.bach.workflow.Structure;
 import run.bach.workflow.Structure.Basics;
@@ -55,6 +57,14 @@ public record Project(boolean verbose, Workflow workflow) implements Builder, St
     System.out.println(workflow.runner());
   }
 
+  @Override
+  public void prepare() {
+    Builder.super.prepare();
+    var cache = Path.of(".bach", "tmp", "lib.sha256.properties");
+    var update = Boolean.getBoolean("-Dlock-update".substring(2));
+    LibraryVerifier.of(Path.of("lib"), cache, update, verbose).verify();
+  }
+
   @Override
   public boolean builderDoesCleanAtTheBeginning() {
     return true;
@@ -85,6 +95,23 @@ public record Project(boolean verbose, Workflow workflow) implements Builder, St
 
   @Override
   public void junitTesterRunJUnitToolCall(ToolCall junit) {
-    run(junit.add("--details", "none").add("--disable-banner").add("--disable-ansi-colors"));
+    var call = junit.add("--details", "none").add("--disable-banner").add("--disable-ansi-colors");
+    var arguments = call.arguments();
+    var space = JUnitTester.space();
+    var index = arguments.indexOf("--select-module") + 1;
+    var module = index > 0 && index < arguments.size() ? arguments.get(index) : space.name();
+    var cache = new JUnitResultCache(Path.of(".bach", "tmp", "junit"), Path.of("src"));
+    var fingerprint = cache.fingerprint(module, arguments);
+    var replay = fingerprint.flatMap(cache::load);
+    if (replay.isPresent()) {
+      System.out.println("JUnit result of " + module + " replayed from cache");
+      System.out.print(replay.get().out());
+      System.err.print(replay.get().err());
+      return;
+    }
+    var run = run(call);
+    if (run.code() != 0) return;
+    var result = new JUnitResultCache.Result(run.out(), run.err());
+    fingerprint.ifPresent(hash -> cache.store(hash, result));
   }
 }
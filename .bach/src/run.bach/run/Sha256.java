@@ -0,0 +1,15 @@
+package run;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/** SHA-256 support shared by the project's verifiers and caches. */
+interface Sha256 {
+  static MessageDigest newMessageDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException exception) {
+      throw new AssertionError("SHA-256 is required by the Java SE Platform", exception);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package run.demo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import run.bach.*;
+
+class ToolBatchDemo {
+  public static void main(String... args) {
+    var batch = new Batch(ToolRunner.ofSilence(), Runtime.getRuntime().availableProcessors());
+    batch.runAll(
+        List.of(
+            ToolCall.of("jar").add("--version"),
+            ToolCall.of("javac").add("--version"),
+            ToolCall.of("javadoc").add("--version"),
+            ToolCall.of("jdeps").add("--version"),
+            ToolCall.of("jlink").add("--version")));
+  }
+
+  /** Runs tool calls concurrently, limited by a number of tokens, and prints outputs in order. */
+  record Batch(ToolRunner runner, int tokens) {
+    List<ToolRun> runAll(List<ToolCall> calls) {
+      var semaphore = new Semaphore(tokens);
+      var runs = new ArrayList<ToolRun>();
+      var failure = new RuntimeException("Batch of %d tools failed".formatted(calls.size()));
+      try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        var futures = new ArrayList<Future<ToolRun>>();
+        for (var call : calls) {
+          futures.add(executor.submit(() -> run(semaphore, call)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+          var call = calls.get(i);
+          try {
+            var run = futures.get(i).get();
+            print(call, run.out(), run.err());
+            runs.add(run);
+            if (run.code() != 0) {
+              var message = "%s -> exit code %d".formatted(header(call), run.code());
+              failure.addSuppressed(new RuntimeException(message));
+            }
+          } catch (ExecutionException exception) {
+            print(call, "", String.valueOf(exception.getCause()));
+            failure.addSuppressed(exception.getCause());
+          } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            failure.addSuppressed(exception);
+            throw failure;
+          }
+        }
+      }
+      if (failure.getSuppressed().length > 0) throw failure;
+      return List.copyOf(runs);
+    }
+
+    ToolRun run(Semaphore semaphore, ToolCall call) throws InterruptedException {
+      semaphore.acquire();
+      try {
+        return runner.run(call);
+      } finally {
+        semaphore.release();
+      }
+    }
+
+    static String header(ToolCall call) {
+      var arguments = call.arguments();
+      var name = call.tool().name();
+      return "| " + (arguments.isEmpty() ? name : name + " " + String.join(" ", arguments));
+    }
+
+    // one block per call on a single stream, keeping it uninterrupted in combined logs
+    static void print(ToolCall call, String out, String err) {
+      var block = new StringBuilder(header(call)).append('\n');
+      if (!out.isBlank()) block.append(out.stripTrailing()).append('\n');
+      if (!err.isBlank()) block.append(err.stripTrailing()).append('\n');
+      System.out.print(block);
+    }
+  }
+}
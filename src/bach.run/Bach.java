@@ -80,34 +80,76 @@ interface Bach {
       if (DEBUG) System.out.println(message);
     }
 
-    static void copy(String source, Path target, CopyOption... options) throws Exception {
-      debug("<< %s".formatted(source));
-      Files.createDirectories(target.getParent());
-      try (var stream =
-          source.startsWith("http")
-              ? URI.create(source).toURL().openStream()
-              : Files.newInputStream(Path.of(source))) {
-        var size = Files.copy(stream, target, options);
-        debug(">> %,7d %s".formatted(size, target.getFileName()));
+    // revalidate a cached copy via stored ETag and Last-Modified headers, offline: cache-only
+    static Path cache(String source, Path directory, boolean offline) throws Exception {
+      var target = cacheFile(source, directory);
+      var name = target.getFileName().toString();
+      var info = directory.resolve(name + ".properties");
+      var properties = new Properties();
+      if (Files.isRegularFile(target) && Files.isRegularFile(info)) {
+        try (var reader = Files.newBufferedReader(info)) {
+          properties.load(reader);
+        }
       }
-    }
-
-    static void delete(Path path) throws Exception {
-      var start = path.normalize().toAbsolutePath();
-      if (Files.notExists(start)) return;
-      for (var root : start.getFileSystem().getRootDirectories()) {
-        if (start.equals(root)) {
-          debug("deletion of root directory?! " + path);
-          return;
+      if (offline) {
+        if (Files.isRegularFile(target)) {
+          debug("== %s (offline)".formatted(target.getFileName()));
+          return target;
         }
+        throw new NoSuchFileException(target.toString(), null, "Not cached: " + source);
       }
-      debug("delete directory tree " + start);
-      try (var stream = Files.walk(start)) {
-        var files = stream.sorted((p, q) -> -p.compareTo(q));
-        for (var file : files.toArray(Path[]::new)) Files.deleteIfExists(file);
+      var con = (HttpURLConnection) URI.create(source).toURL().openConnection();
+      try {
+        var etag = properties.getProperty("ETag");
+        if (etag != null) con.setRequestProperty("If-None-Match", etag);
+        var modified = properties.getProperty("Last-Modified");
+        if (modified != null) con.setRequestProperty("If-Modified-Since", modified);
+        var status = con.getResponseCode();
+        debug("%d <- GET %s".formatted(status, source));
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED) return target;
+        if (status != HttpURLConnection.HTTP_OK) {
+          throw new IOException("Unexpected status %d for %s".formatted(status, source));
+        }
+        Files.createDirectories(directory);
+        // drop stale validators first: a crash below leads to a full download next time
+        Files.deleteIfExists(info);
+        var temp = Files.createTempFile(directory, name, ".tmp");
+        try {
+          try (var stream = con.getInputStream()) {
+            var size = Files.copy(stream, temp, StandardCopyOption.REPLACE_EXISTING);
+            debug(">> %,7d %s".formatted(size, target.getFileName()));
+          }
+          Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+          Files.deleteIfExists(temp);
+        }
+        properties.clear();
+        properties.setProperty("URI", source);
+        var etagField = con.getHeaderField("ETag");
+        if (etagField != null) properties.setProperty("ETag", etagField);
+        var modifiedField = con.getHeaderField("Last-Modified");
+        if (modifiedField != null) properties.setProperty("Last-Modified", modifiedField);
+        var tempInfo = Files.createTempFile(directory, name, ".properties.tmp");
+        try {
+          try (var writer = Files.newBufferedWriter(tempInfo)) {
+            properties.store(writer, null);
+          }
+          Files.move(tempInfo, info, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+          Files.deleteIfExists(tempInfo);
+        }
+        return target;
+      } finally {
+        con.disconnect();
       }
     }
 
+    static Path cacheFile(String source, Path directory) {
+      var uri = URI.create(source);
+      var name = (uri.getHost() + uri.getPath()).replaceAll("[^\\w.-]+", "_");
+      return directory.resolve(name);
+    }
+
     static boolean head(String source) throws Exception {
       var url = URI.create(source).toURL();
       var con = (HttpURLConnection) url.openConnection();
@@ -187,6 +229,8 @@ interface Bach {
     static Path HOME = Path.of(System.getProperty("-Dhome".substring(2), ""));
     // git submodule add <repository> [<path>] <- .bach/src[/run.bach]/run/bach
     static Path PATH = Path.of(System.getProperty("-Dpath".substring(2), ".bach/src/run/bach"));
+    // serve downloads from the cache in .bach/tmp/cache only, no network connection
+    static boolean OFFLINE = Boolean.getBoolean("-Doffline".substring(2));
 
     Installer() {
       this(VERSION);
@@ -211,23 +255,24 @@ interface Bach {
               "https://github.com/sormuras/run.bach/archive/refs/tags/" + version + ".zip",
               "https://github.com/sormuras/run.bach/archive/refs/heads/" + version + ".zip");
       for (var uri : uris) {
-        if (Internal.head(uri)) {
+        if (OFFLINE ? Files.isRegularFile(Internal.cacheFile(uri, cache())) : Internal.head(uri)) {
           installSourcesFromUri(uri);
           return;
         }
       }
+      if (OFFLINE) throw new NoSuchFileException("No cached sources of Bach " + version);
     }
 
     void installSourcesFromUri(String uri) throws Exception {
-      var tmp = Files.createTempDirectory("run.bach-" + version + "-");
       var dir = Files.createDirectories(home.resolve(path));
-      var zip = tmp.resolve("run.bach-" + version + ".zip");
       System.out.println("Installing Bach [" + version + "] into " + path.toUri() + "...");
-      // download and unzip
-      Internal.copy(uri, zip, StandardCopyOption.REPLACE_EXISTING);
+      // download, or revalidate cached archive, and unzip
+      var zip = Internal.cache(uri, cache(), OFFLINE);
       Internal.unzip(zip, dir, 1);
-      // clean up
-      Internal.delete(tmp);
+    }
+
+    Path cache() {
+      return home.resolve(".bach/tmp/cache");
     }
 
     void installArgumentFiles() throws Exception {
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 Christian Stein
+ * Licensed under the Universal Permissive License v 1.0 -> https://opensource.org/license/upl
+ */
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Run via {@code java src/bach.run/BachTests.java} to test {@code Bach.java}'s internals. */
+class BachTests {
+  public static void main(String... args) throws Exception {
+    testCacheRevalidatesAndServesOffline();
+    System.out.println("BachTests passed.");
+  }
+
+  static void testCacheRevalidatesAndServesOffline() throws Exception {
+    var full = new AtomicInteger();
+    var notModified = new AtomicInteger();
+    var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/run.bach/main.zip",
+        exchange -> {
+          var etag = "\"v1\"";
+          if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+          }
+          full.incrementAndGet();
+          var bytes = "archive".getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("ETag", etag);
+          exchange.sendResponseHeaders(200, bytes.length);
+          try (var body = exchange.getResponseBody()) {
+            body.write(bytes);
+          }
+        });
+    server.start();
+    var source = "http://127.0.0.1:" + server.getAddress().getPort() + "/run.bach/main.zip";
+    var directory = Files.createTempDirectory("bach-tests-cache-");
+    try {
+      var first = Bach.Internal.cache(source, directory, false);
+      check(full.get() == 1 && notModified.get() == 0, "200 expected: " + full + "/" + notModified);
+      check(Files.readString(first).equals("archive"), "Unexpected content: " + first);
+
+      var second = Bach.Internal.cache(source, directory, false);
+      check(full.get() == 1 && notModified.get() == 1, "304 expected: " + full + "/" + notModified);
+      check(second.equals(first), "Same file expected: " + second);
+    } finally {
+      server.stop(0);
+    }
+    var offline = Bach.Internal.cache(source, directory, true);
+    check(Files.readString(offline).equals("archive"), "Offline hit expected: " + offline);
+    try {
+      Bach.Internal.cache(source + ".missing", directory, true);
+      throw new AssertionError("NoSuchFileException expected");
+    } catch (NoSuchFileException expected) {
+      // not cached, no network connection attempted
+    }
+    try (var stream = Files.list(directory)) {
+      var leftovers = stream.filter(path -> path.toString().endsWith(".tmp")).toList();
+      check(leftovers.isEmpty(), "Temporary files left behind: " + leftovers);
+    }
+  }
+
+  static void check(boolean condition, String message) {
+    if (!condition) throw new AssertionError(message);
+  }
+}